@@ -0,0 +1,84 @@
+package org.checkerframework.checker.dividebyzero;
+
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.dataflow.analysis.Store;
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.block.Block;
+import org.checkerframework.dataflow.cfg.node.Node;
+import org.checkerframework.framework.flow.CFAnalysis;
+import org.checkerframework.framework.flow.CFStore;
+import org.checkerframework.framework.flow.CFValue;
+import org.checkerframework.javacutil.TypesUtils;
+
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.util.List;
+
+/**
+ * The dataflow analysis of the Divide By Zero Checker. Its stores are
+ * {@link DivByZeroStore}s, which are pruned at every block boundary to the
+ * int and long expressions that can still matter, using a liveness pass
+ * run before each control flow graph is analyzed. With the
+ * "divByZeroRelational" option, the stores also track differences between
+ * local variables.
+ */
+public class DivByZeroAnalysis extends CFAnalysis {
+
+    /** Whether to track differences between local variables */
+    private final boolean relational;
+
+    /** Liveness of the control flow graph being analyzed */
+    private DivByZeroLiveness liveness;
+
+    public DivByZeroAnalysis(BaseTypeChecker checker, DivByZeroAnnotatedTypeFactory factory) {
+        super(checker, factory);
+        this.relational = checker.hasOption("divByZeroRelational");
+    }
+
+    /** Whether to track differences between local variables */
+    boolean isRelational() {
+        return relational;
+    }
+
+    /**
+     * Determine whether a type is one this checker tracks: int, long, and
+     * their boxes, matching the checker's {@code @RelevantJavaTypes}.
+     */
+    static boolean isRelevant(TypeMirror type, Types types) {
+        if (TypesUtils.isBoxedPrimitive(type)) {
+            type = types.unboxedType(type);
+        }
+        return type.getKind() == TypeKind.INT || type.getKind() == TypeKind.LONG;
+    }
+
+    @Override
+    public void performAnalysis(ControlFlowGraph cfg, List<FieldInitialValue<CFValue>> fieldValues) {
+        liveness = new DivByZeroLiveness(cfg, types);
+        super.performAnalysis(cfg, fieldValues);
+    }
+
+    @Override
+    protected void addStoreBefore(Block b, Node node, CFStore s, Store.Kind kind, boolean addBlockToWorklist) {
+        // The exit blocks keep everything, since postconditions are checked
+        // against their stores.
+        if (b.getType() != Block.BlockType.SPECIAL_BLOCK && s instanceof DivByZeroStore) {
+            s = ((DivByZeroStore) s).pruned(variable -> liveness.isLiveBefore(b, variable));
+        }
+        super.addStoreBefore(b, node, s, kind, addBlockToWorklist);
+    }
+
+    @Override
+    public CFStore createEmptyStore(boolean sequentialSemantics) {
+        return new DivByZeroStore(this, sequentialSemantics);
+    }
+
+    @Override
+    public CFStore createCopiedStore(CFStore s) {
+        if (s instanceof DivByZeroStore) {
+            return new DivByZeroStore((DivByZeroStore) s);
+        }
+        return super.createCopiedStore(s);
+    }
+
+}
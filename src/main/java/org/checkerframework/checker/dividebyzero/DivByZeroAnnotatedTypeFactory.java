@@ -2,18 +2,25 @@ package org.checkerframework.checker.dividebyzero;
 
 import com.sun.source.tree.BinaryTree;
 import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
 import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
 import com.sun.source.tree.Tree;
 import com.sun.source.tree.UnaryTree;
 import org.checkerframework.common.basetype.BaseAnnotatedTypeFactory;
 import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.framework.flow.CFAnalysis;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.AnnotatedTypeMirror;
 import org.checkerframework.framework.type.treeannotator.ListTreeAnnotator;
 import org.checkerframework.framework.type.treeannotator.TreeAnnotator;
 import org.checkerframework.javacutil.AnnotationBuilder;
+import org.checkerframework.javacutil.TreeUtils;
 
 import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.VariableElement;
 import java.lang.annotation.Annotation;
 
 import org.checkerframework.checker.dividebyzero.qual.*;
@@ -54,6 +61,35 @@ public class DivByZeroAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
         return Top.class;
     }
 
+    /**
+     * Compute the annotation for a use of a compile-time constant, such as
+     * {@code Integer.MAX_VALUE} or a {@code static final int} field. The
+     * value of a constant is recorded in its class file, so its sign is
+     * known even when the constant comes from another module or an earlier
+     * compilation, without analyzing its initializer again.
+     *
+     * @param element   the element referenced by an identifier or member select
+     * @return the most specific point in the lattice for the constant's value, or null if
+     *         the element is not an int or long constant
+     */
+    private Class<? extends Annotation> constantAnnotation(Element element) {
+        if (!(element instanceof VariableElement)) {
+            return null;
+        }
+        Object value = ((VariableElement) element).getConstantValue();
+        if (!(value instanceof Integer) && !(value instanceof Long)) {
+            return null;
+        }
+        long longValue = ((Number) value).longValue();
+        if (longValue < 0) {
+            return Negative.class;
+        } else if (longValue == 0) {
+            return Zero.class;
+        } else {
+            return Positive.class;
+        }
+    }
+
     // ========================================================================
     // Checker Framework plumbing
 
@@ -62,6 +98,13 @@ public class DivByZeroAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
         postInit();
     }
 
+    // The framework's reflective lookup of "DivByZeroAnalysis" does not
+    // match the constructor it then invokes, so create the analysis directly.
+    @Override
+    protected CFAnalysis createFlowAnalysis() {
+        return new DivByZeroAnalysis(checker, this);
+    }
+
     @Override
     protected TreeAnnotator createTreeAnnotator() {
         return new ListTreeAnnotator(
@@ -86,6 +129,26 @@ public class DivByZeroAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
             return null;
         }
 
+        @Override
+        public Void visitIdentifier(IdentifierTree tree, AnnotatedTypeMirror type) {
+            refineConstant(tree, type);
+            return super.visitIdentifier(tree, type);
+        }
+
+        @Override
+        public Void visitMemberSelect(MemberSelectTree tree, AnnotatedTypeMirror type) {
+            refineConstant(tree, type);
+            return super.visitMemberSelect(tree, type);
+        }
+
+        private void refineConstant(ExpressionTree tree, AnnotatedTypeMirror type) {
+            Class<? extends Annotation> c = constantAnnotation(TreeUtils.elementFromUse(tree));
+            if (c != null) {
+                AnnotationMirror m = AnnotationBuilder.fromClass(getProcessingEnv().getElementUtils(), c);
+                type.replaceAnnotation(m);
+            }
+        }
+
         // From Suzanne Millstein, 2017/05/08:
         //
         //  > The AnnotatedTypeFactory only applies types computed by dataflow
@@ -0,0 +1,113 @@
+package org.checkerframework.checker.dividebyzero;
+
+import org.checkerframework.javacutil.UserError;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A set of fingerprints of previously accepted "divide.by.zero" findings.
+ *
+ * <p>A fingerprint identifies a finding by its enclosing method, its
+ * normalized expression text, the qualifier of its divisor, and its
+ * occurrence index among the findings of that method with the same text and
+ * qualifier, so that it survives unrelated edits that move code around, and
+ * a second identical division added to a method is still reported. On disk,
+ * a baseline is a UTF-8 text file with one fingerprint per line, written in
+ * sorted order.
+ */
+class DivByZeroBaseline {
+
+    /** Fingerprints read from the baseline file */
+    private final Set<String> accepted;
+
+    /** Fingerprints of every finding seen in this compilation */
+    private final Set<String> seen = new HashSet<>();
+
+    /** Number of findings seen so far per fingerprint without occurrence index */
+    private final Map<String, Integer> occurrences = new HashMap<>();
+
+    private DivByZeroBaseline(Set<String> accepted) {
+        this.accepted = accepted;
+    }
+
+    /** An empty baseline, which accepts nothing */
+    static DivByZeroBaseline empty() {
+        return new DivByZeroBaseline(Collections.emptySet());
+    }
+
+    /**
+     * Read a baseline file.
+     *
+     * @param file   the file to read
+     * @return the baseline stored in the file
+     */
+    static DivByZeroBaseline load(Path file) {
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            Set<String> accepted = new HashSet<>(lines.size() * 2);
+            for (String line : lines) {
+                if (!line.isEmpty()) {
+                    accepted.add(line);
+                }
+            }
+            return new DivByZeroBaseline(accepted);
+        } catch (IOException e) {
+            throw new UserError(String.format(
+                "Cannot read divide-by-zero baseline %s: %s", file, e.getMessage()));
+        }
+    }
+
+    /**
+     * Build the fingerprint of a finding, without its occurrence index.
+     *
+     * @param method      the enclosing method (or class, outside of methods)
+     * @param expression  the source text of the offending expression
+     * @param qualifier   the simple name of the divisor's qualifier
+     * @return the fingerprint
+     */
+    static String fingerprint(String method, String expression, String qualifier) {
+        return method + '\t' + expression.trim().replaceAll("\\s+", " ") + '\t' + qualifier;
+    }
+
+    /**
+     * Record a finding and determine whether it is already in the baseline.
+     * Findings must be recorded in source order, so that the n-th identical
+     * finding of a method gets occurrence index n - 1.
+     *
+     * @param fingerprint   the fingerprint of the finding, without occurrence index
+     * @return true if the finding is in the baseline and should not be reported
+     */
+    boolean accept(String fingerprint) {
+        int index = occurrences.merge(fingerprint, 1, Integer::sum) - 1;
+        String indexed = fingerprint + '\t' + index;
+        seen.add(indexed);
+        return accepted.contains(indexed);
+    }
+
+    /**
+     * Write the fingerprints of every finding seen so far, sorted.
+     *
+     * @param file   the file to write
+     */
+    void write(Path file) {
+        List<String> lines = new ArrayList<>(seen);
+        Collections.sort(lines);
+        try {
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UserError(String.format(
+                "Cannot write divide-by-zero baseline %s: %s", file, e.getMessage()));
+        }
+    }
+
+}
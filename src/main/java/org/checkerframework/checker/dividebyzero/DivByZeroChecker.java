@@ -1,8 +1,114 @@
 package org.checkerframework.checker.dividebyzero;
 
+import com.sun.source.util.TreePath;
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.framework.qual.RelevantJavaTypes;
 
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.TypeElement;
+import java.nio.file.Paths;
+
+/**
+ * The Divide By Zero Checker.
+ *
+ * <p>Supported options:
+ * <ul>
+ *   <li>{@code -AdivByZeroBaseline=<file>}: do not report findings whose
+ *       fingerprints appear in the given baseline file
+ *   <li>{@code -AdivByZeroWriteBaseline=<file>}: write the fingerprints of all
+ *       findings of this compilation to the given file
+ *   <li>{@code -AdivByZeroSafeManifest=<file>}: write every division proven
+ *       safe, and every zero-guard made redundant by known signs, to the
+ *       given file
+ *   <li>{@code -AdivByZeroIncludePackages=<p1>,<p2>,...}: only check classes
+ *       in these packages and their subpackages
+ *   <li>{@code -AdivByZeroExcludePackages=<p1>,<p2>,...}: do not check classes
+ *       in these packages and their subpackages
+ *   <li>{@code -AdivByZeroRelational}: also track differences between local
+ *       variables, so that "n - i" is known to be non-zero where "i &lt; n"
+ * </ul>
+ *
+ * <p>Top-level classes annotated with any annotation named {@code Generated}
+ * (such as {@code javax.annotation.Generated}) are never checked.
+ */
 @RelevantJavaTypes({Integer.class, Long.class})
+@SupportedOptions({"divByZeroBaseline", "divByZeroWriteBaseline", "divByZeroSafeManifest",
+                    "divByZeroIncludePackages", "divByZeroExcludePackages",
+                    "divByZeroRelational"})
 public class DivByZeroChecker extends BaseTypeChecker {
+
+    /** The baseline in use; lazily initialized because options are not available earlier */
+    private DivByZeroBaseline baseline;
+
+    /** Get the baseline of accepted findings for this compilation */
+    DivByZeroBaseline getBaseline() {
+        if (baseline == null) {
+            String file = getOption("divByZeroBaseline");
+            baseline = file == null ? DivByZeroBaseline.empty() : DivByZeroBaseline.load(Paths.get(file));
+        }
+        return baseline;
+    }
+
+    /** The manifest of proven-safe sites; lazily initialized like the baseline */
+    private DivByZeroManifest manifest;
+
+    /** Get the manifest of proven-safe sites, or null if none was requested */
+    DivByZeroManifest getManifest() {
+        if (manifest == null && hasOption("divByZeroSafeManifest")) {
+            manifest = new DivByZeroManifest();
+        }
+        return manifest;
+    }
+
+    /** The packages to check; lazily initialized like the baseline */
+    private DivByZeroPackageFilter packageFilter;
+
+    /**
+     * Skip classes that are generated or outside of the packages to check.
+     * Skipped classes are neither visited nor analyzed by dataflow.
+     */
+    @Override
+    public void typeProcess(TypeElement element, TreePath tree) {
+        if (isGenerated(element) || !isInCheckedPackage(element)) {
+            return;
+        }
+        super.typeProcess(element, tree);
+    }
+
+    /** Determine whether a class is annotated with any annotation named "Generated" */
+    private boolean isGenerated(TypeElement element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().asElement().getSimpleName().contentEquals("Generated")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Determine whether a class is in one of the packages to check */
+    private boolean isInCheckedPackage(TypeElement element) {
+        if (packageFilter == null) {
+            packageFilter = new DivByZeroPackageFilter(
+                getOption("divByZeroIncludePackages"),
+                getOption("divByZeroExcludePackages"));
+        }
+        String packageName = getProcessingEnvironment().getElementUtils()
+            .getPackageOf(element).getQualifiedName().toString();
+        return packageFilter.shouldCheck(packageName);
+    }
+
+    @Override
+    public void typeProcessingOver() {
+        String file = getOption("divByZeroWriteBaseline");
+        if (file != null) {
+            getBaseline().write(Paths.get(file));
+        }
+        String manifestFile = getOption("divByZeroSafeManifest");
+        if (manifestFile != null) {
+            getManifest().write(Paths.get(manifestFile));
+        }
+        super.typeProcessingOver();
+    }
+
 }
@@ -0,0 +1,153 @@
+package org.checkerframework.checker.dividebyzero;
+
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.block.Block;
+import org.checkerframework.dataflow.cfg.block.ExceptionBlock;
+import org.checkerframework.dataflow.cfg.node.AssignmentNode;
+import org.checkerframework.dataflow.cfg.node.LocalVariableNode;
+import org.checkerframework.dataflow.cfg.node.Node;
+import org.checkerframework.dataflow.cfg.node.SwitchExpressionNode;
+import org.checkerframework.dataflow.cfg.node.TernaryExpressionNode;
+import org.checkerframework.javacutil.TreeUtils;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Types;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The int and long local variables that are live at the start of each block
+ * of a control flow graph: those that may still be read before they are
+ * assigned again. Computed once per graph by a backward pass over its
+ * blocks, before the graph is analyzed.
+ *
+ * <p>Variables read inside a lambda or local class declared in the graph
+ * count as live everywhere, since those bodies are analyzed separately,
+ * starting from the store at their declaration.
+ */
+class DivByZeroLiveness {
+
+    /** The live variables at the start of each block */
+    private final Map<Block, Set<Element>> liveIn = new IdentityHashMap<>();
+
+    /** Variables read inside a lambda or local class */
+    private final Set<Element> captured = new HashSet<>();
+
+    /** Used to decide which variables the checker tracks */
+    private final Types types;
+
+    DivByZeroLiveness(ControlFlowGraph cfg, Types types) {
+        this.types = types;
+        for (Tree tree : cfg.getDeclaredLambdas()) {
+            addCaptured(tree);
+        }
+        for (Tree tree : cfg.getDeclaredClasses()) {
+            addCaptured(tree);
+        }
+
+        List<Block> blocks = cfg.getDepthFirstOrderedBlocks();
+        Deque<Block> worklist = new ArrayDeque<>(blocks.size());
+        for (Block block : blocks) {
+            // later blocks first, so that most blocks are final on their first visit
+            worklist.push(block);
+        }
+        while (!worklist.isEmpty()) {
+            Block block = worklist.pop();
+            Set<Element> live = liveBefore(block, liveAfter(block));
+            if (!live.equals(liveIn.get(block))) {
+                liveIn.put(block, live);
+                worklist.addAll(block.getPredecessors());
+            }
+        }
+    }
+
+    /**
+     * Determine whether a local variable may be read after the start of a block.
+     *
+     * @param block      a block of the graph
+     * @param variable   a local variable
+     * @return false if the variable is not read again before being assigned
+     */
+    boolean isLiveBefore(Block block, Element variable) {
+        return captured.contains(variable)
+            || liveIn.getOrDefault(block, Collections.emptySet()).contains(variable);
+    }
+
+    /** The live variables at the end of a block: those live at any successor */
+    private Set<Element> liveAfter(Block block) {
+        Set<Block> successors = new HashSet<>(block.getSuccessors());
+        if (block instanceof ExceptionBlock) {
+            for (Set<Block> exceptional : ((ExceptionBlock) block).getExceptionalSuccessors().values()) {
+                successors.addAll(exceptional);
+            }
+        }
+        Set<Element> live = new HashSet<>();
+        for (Block successor : successors) {
+            live.addAll(liveIn.getOrDefault(successor, Collections.emptySet()));
+        }
+        return live;
+    }
+
+    /** The live variables at the start of a block, given those at its end */
+    private Set<Element> liveBefore(Block block, Set<Element> live) {
+        List<Node> nodes = block.getNodes();
+        for (int i = nodes.size() - 1; i >= 0; --i) {
+            Node node = nodes.get(i);
+            if (node instanceof AssignmentNode) {
+                // The target of "x = e" is not a read of x. For "x += e" the
+                // CFG also reads x as an operand of the addition, which is a
+                // separate node.
+                AssignmentNode assignment = (AssignmentNode) node;
+                if (assignment.getTarget() instanceof LocalVariableNode) {
+                    live.remove(((LocalVariableNode) assignment.getTarget()).getElement());
+                }
+                addRead(live, assignment.getExpression());
+            } else {
+                for (Node operand : node.getOperands()) {
+                    addRead(live, operand);
+                }
+                // "b ? x : y" and switch expressions merge their branches
+                // through a synthetic local that each branch assigns; the
+                // merge node reads it, but it is not among its operands.
+                if (node instanceof TernaryExpressionNode) {
+                    addRead(live, ((TernaryExpressionNode) node).getTernaryExpressionVar());
+                } else if (node instanceof SwitchExpressionNode) {
+                    addRead(live, ((SwitchExpressionNode) node).getSwitchExpressionVar());
+                }
+            }
+        }
+        return live;
+    }
+
+    private void addRead(Set<Element> live, Node operand) {
+        if (operand instanceof LocalVariableNode) {
+            Element variable = ((LocalVariableNode) operand).getElement();
+            if (DivByZeroAnalysis.isRelevant(variable.asType(), types)) {
+                live.add(variable);
+            }
+        }
+    }
+
+    private void addCaptured(Tree tree) {
+        new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitIdentifier(IdentifierTree node, Void p) {
+                Element element = TreeUtils.elementFromUse(node);
+                if (element != null) {
+                    captured.add(element);
+                }
+                return null;
+            }
+        }.scan(tree, null);
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.checkerframework.checker.dividebyzero;
+
+import org.checkerframework.javacutil.UserError;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A list of the sites where the checker proved a divisor non-zero, and of
+ * the zero-guards whose outcome is already implied by the sign of the
+ * guarded value.
+ *
+ * <p>On disk, a manifest is a UTF-8 text file with one tab-separated entry
+ * per line: the position ({@code file:line:column}), the kind of site
+ * ({@code division} or {@code guard}), the source text of the expression, and
+ * the qualifier that was proven for the divisor or guarded value.
+ */
+class DivByZeroManifest {
+
+    /** Kind of entry for a division or remainder whose divisor is proven non-zero */
+    static final String DIVISION = "division";
+
+    /** Kind of entry for a comparison against zero whose outcome is already known */
+    static final String GUARD = "guard";
+
+    private final List<String> entries = new ArrayList<>();
+
+    /**
+     * Add an entry.
+     *
+     * @param position    the position of the site, as {@code file:line:column}
+     * @param kind        {@link #DIVISION} or {@link #GUARD}
+     * @param expression  the source text of the site
+     * @param qualifier   the simple name of the proven qualifier
+     */
+    void add(String position, String kind, String expression, String qualifier) {
+        entries.add(position + '\t' + kind + '\t' + expression.trim().replaceAll("\\s+", " ") + '\t' + qualifier);
+    }
+
+    /**
+     * Write all entries, in the order they were added.
+     *
+     * @param file   the file to write
+     */
+    void write(Path file) {
+        try {
+            Files.write(file, entries, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UserError(String.format(
+                "Cannot write divide-by-zero manifest %s: %s", file, e.getMessage()));
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.checkerframework.checker.dividebyzero;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides which packages to check, from lists of included and excluded
+ * package prefixes.
+ *
+ * <p>The prefixes are compiled into a trie over the dot-separated components
+ * of package names. A package is decided by the longest prefix that matches
+ * it, so an included subpackage of an excluded package is still checked.
+ * Packages that match no prefix are checked only if no includes were given.
+ * A decision costs one map lookup per package name component.
+ */
+class DivByZeroPackageFilter {
+
+    /** A node of the trie; one per package name component */
+    private static class Node {
+        final Map<String, Node> children = new HashMap<>();
+
+        /** The decision for packages under this prefix, or null if it is not a given prefix */
+        Boolean check;
+    }
+
+    private final Node root = new Node();
+
+    /** Whether packages that match no prefix are checked */
+    private final boolean checkByDefault;
+
+    /**
+     * Build a filter.
+     *
+     * @param includes   comma-separated package prefixes to check, or null
+     * @param excludes   comma-separated package prefixes not to check, or null
+     */
+    DivByZeroPackageFilter(String includes, String excludes) {
+        this.checkByDefault = !addAll(includes, true);
+        addAll(excludes, false);
+    }
+
+    /** Add comma-separated prefixes; returns true if there was at least one */
+    private boolean addAll(String prefixes, boolean check) {
+        boolean any = false;
+        if (prefixes != null) {
+            for (String prefix : prefixes.split(",")) {
+                prefix = prefix.trim();
+                if (!prefix.isEmpty()) {
+                    add(prefix, check);
+                    any = true;
+                }
+            }
+        }
+        return any;
+    }
+
+    private void add(String prefix, boolean check) {
+        Node node = root;
+        for (String component : prefix.split("\\.")) {
+            node = node.children.computeIfAbsent(component, k -> new Node());
+        }
+        node.check = check;
+    }
+
+    /**
+     * Determine whether classes in the given package should be checked.
+     *
+     * @param packageName   the fully qualified package name, empty for the unnamed package
+     * @return true if the package should be checked
+     */
+    boolean shouldCheck(String packageName) {
+        boolean result = checkByDefault;
+        if (packageName.isEmpty()) {
+            return result;
+        }
+        Node node = root;
+        int start = 0;
+        while (node != null && start <= packageName.length()) {
+            int end = packageName.indexOf('.', start);
+            if (end < 0) {
+                end = packageName.length();
+            }
+            node = node.children.get(packageName.substring(start, end));
+            if (node != null && node.check != null) {
+                result = node.check;
+            }
+            start = end + 1;
+        }
+        return result;
+    }
+
+}
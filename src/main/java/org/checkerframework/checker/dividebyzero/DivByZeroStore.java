@@ -0,0 +1,160 @@
+package org.checkerframework.checker.dividebyzero;
+
+import org.checkerframework.dataflow.cfg.node.LocalVariableNode;
+import org.checkerframework.dataflow.cfg.node.Node;
+import org.checkerframework.dataflow.expression.JavaExpression;
+import org.checkerframework.dataflow.expression.LocalVariable;
+import org.checkerframework.framework.flow.CFAbstractAnalysis;
+import org.checkerframework.framework.flow.CFStore;
+import org.checkerframework.framework.flow.CFValue;
+import org.checkerframework.javacutil.Pair;
+
+import javax.lang.model.element.Element;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The store of the Divide By Zero Checker. It can be pruned to the entries
+ * that can still matter (see {@link #pruned}), and, in addition to the
+ * qualifier of each expression, it records difference bounds between pairs
+ * of local variables: facts of the form "x - y &lt;= c", learned from
+ * comparisons such as "x &lt; y" (c = -1) or "x &lt;= y" (c = 0).
+ *
+ * <p>The bounds are kept sparsely, one map entry per related pair, and only
+ * for the variables the transfer function chooses to relate. A bound is
+ * dropped as soon as either of its variables is assigned, and two stores
+ * are joined by keeping the bounds that hold in both.
+ */
+public class DivByZeroStore extends CFStore {
+
+    /** bounds.get((x, y)) == c means x - y &lt;= c */
+    private final Map<Pair<Element, Element>, Integer> bounds;
+
+    public DivByZeroStore(CFAbstractAnalysis<CFValue, CFStore, ?> analysis, boolean sequentialSemantics) {
+        super(analysis, sequentialSemantics);
+        this.bounds = new HashMap<>();
+    }
+
+    public DivByZeroStore(DivByZeroStore other) {
+        super(other);
+        this.bounds = new HashMap<>(other.bounds);
+    }
+
+    /**
+     * Record that x - y &lt;= c, keeping the tighter bound if one is already known.
+     *
+     * @param x   the minuend
+     * @param y   the subtrahend
+     * @param c   the upper bound of x - y
+     */
+    void addUpperBound(Element x, Element y, int c) {
+        bounds.merge(Pair.of(x, y), c, Math::min);
+    }
+
+    /**
+     * Get the known upper bound of x - y.
+     *
+     * @param x   the minuend
+     * @param y   the subtrahend
+     * @return c such that x - y &lt;= c, or null if nothing is known
+     */
+    Integer upperBound(Element x, Element y) {
+        return bounds.get(Pair.of(x, y));
+    }
+
+    /**
+     * Get this store without the entries that can no longer matter: those
+     * for local variables that are dead, and those for expressions of types
+     * the checker does not track (see {@link DivByZeroAnalysis#isRelevant}).
+     *
+     * @param isLive   whether a local variable may still be read
+     * @return this store if there is nothing to drop, otherwise a pruned copy
+     */
+    DivByZeroStore pruned(Predicate<Element> isLive) {
+        Predicate<JavaExpression> irrelevant =
+            e -> !DivByZeroAnalysis.isRelevant(e.getType(), analysis.getTypes());
+        Predicate<LocalVariable> dead =
+            v -> irrelevant.test(v) || !isLive.test(v.getElement());
+        Predicate<Pair<Element, Element>> deadPair =
+            pair -> !isLive.test(pair.first) || !isLive.test(pair.second);
+
+        if (localVariableValues.keySet().stream().noneMatch(dead)
+                && fieldValues.keySet().stream().noneMatch(irrelevant)
+                && arrayValues.keySet().stream().noneMatch(irrelevant)
+                && methodValues.keySet().stream().noneMatch(irrelevant)
+                && classValues.keySet().stream().noneMatch(irrelevant)
+                && bounds.keySet().stream().noneMatch(deadPair)) {
+            return this;
+        }
+        DivByZeroStore result = new DivByZeroStore(this);
+        result.localVariableValues.keySet().removeIf(dead);
+        result.fieldValues.keySet().removeIf(irrelevant);
+        result.arrayValues.keySet().removeIf(irrelevant);
+        result.methodValues.keySet().removeIf(irrelevant);
+        result.classValues.keySet().removeIf(irrelevant);
+        result.bounds.keySet().removeIf(deadPair);
+        return result;
+    }
+
+    @Override
+    public void updateForAssignment(Node n, CFValue val) {
+        super.updateForAssignment(n, val);
+        if (n instanceof LocalVariableNode) {
+            Element assigned = ((LocalVariableNode) n).getElement();
+            Iterator<Pair<Element, Element>> it = bounds.keySet().iterator();
+            while (it.hasNext()) {
+                Pair<Element, Element> pair = it.next();
+                if (pair.first == assigned || pair.second == assigned) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public CFStore leastUpperBound(CFStore other) {
+        return joinBounds(super.leastUpperBound(other), other);
+    }
+
+    @Override
+    public CFStore widenedUpperBound(CFStore previous) {
+        // The bounds only ever get weaker or disappear when joined, so the
+        // join is already a widening.
+        return joinBounds(super.widenedUpperBound(previous), previous);
+    }
+
+    /** Give result the bounds that hold in both this store and other */
+    private CFStore joinBounds(CFStore result, CFStore other) {
+        if (result instanceof DivByZeroStore) {
+            Map<Pair<Element, Element>, Integer> joined = new HashMap<>();
+            if (other instanceof DivByZeroStore) {
+                Map<Pair<Element, Element>, Integer> otherBounds = ((DivByZeroStore) other).bounds;
+                for (Map.Entry<Pair<Element, Element>, Integer> entry : bounds.entrySet()) {
+                    Integer otherBound = otherBounds.get(entry.getKey());
+                    if (otherBound != null) {
+                        joined.put(entry.getKey(), Math.max(entry.getValue(), otherBound));
+                    }
+                }
+            }
+            Map<Pair<Element, Element>, Integer> resultBounds = ((DivByZeroStore) result).bounds;
+            resultBounds.clear();
+            resultBounds.putAll(joined);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o)
+            && o instanceof DivByZeroStore
+            && bounds.equals(((DivByZeroStore) o).bounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() * 31 + bounds.hashCode();
+    }
+
+}
@@ -1,5 +1,14 @@
 package org.checkerframework.checker.dividebyzero;
 
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
 import org.checkerframework.dataflow.expression.JavaExpression;
 import org.checkerframework.framework.type.QualifierHierarchy;
 import org.checkerframework.framework.flow.CFTransfer;
@@ -13,10 +22,19 @@ import org.checkerframework.dataflow.analysis.RegularTransferResult;
 import org.checkerframework.dataflow.analysis.ConditionalTransferResult;
 import org.checkerframework.javacutil.AnnotationBuilder;
 import org.checkerframework.javacutil.AnnotationUtils;
+import org.checkerframework.javacutil.TreeUtils;
 
 import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
 import java.lang.annotation.Annotation;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.checkerframework.checker.dividebyzero.qual.*;
@@ -72,13 +90,6 @@ public class DivByZeroTransfer extends CFTransfer {
             AnnotationMirror lhs,
             AnnotationMirror rhs) {
         // TODO
-        AnnotationMirror top = top();
-        AnnotationMirror nonzero = reflect(NonZero.class);
-        AnnotationMirror positive = reflect(Positive.class);
-        AnnotationMirror negative = reflect(Negative.class);
-        AnnotationMirror zero = reflect(Zero.class);
-        AnnotationMirror bottom = bottom();
-
         // bottom always prevails
         if (equal(lhs, bottom) || equal(rhs, bottom)) {
             return glb(lhs, bottom);
@@ -143,13 +154,6 @@ public class DivByZeroTransfer extends CFTransfer {
             AnnotationMirror lhs,
             AnnotationMirror rhs) {
         // TODO
-        AnnotationMirror top = top();
-        AnnotationMirror nonzero = reflect(NonZero.class);
-        AnnotationMirror positive = reflect(Positive.class);
-        AnnotationMirror negative = reflect(Negative.class);
-        AnnotationMirror zero = reflect(Zero.class);
-        AnnotationMirror bottom = bottom();
-        
         // need to cover all cases of transfer functions
         if (operator == BinaryOperator.PLUS) {
             // bottom prevails on others
@@ -158,16 +162,20 @@ public class DivByZeroTransfer extends CFTransfer {
             } else if (equal(lhs, top) || equal(rhs, top)) {
                 // top with anything non bottom -> top
                 return top;
-            } else if (equal(lhs, nonzero) || equal(rhs, nonzero)) {
-                // top and bottom excluded, anything plus nonzero is nonzero
-                return nonzero;
             } else if (equal(rhs, zero)) {
-                // if rhs is zero, then result will be whatever lhs is positive, negative
+                // if rhs is zero, then result will be whatever lhs is
                 return lhs;
             } else if (equal(lhs, zero)) {
-                // if lhs is zero, then result will be whatever rhs is positive, negative
+                // if lhs is zero, then result will be whatever rhs is
                 return rhs;
+            } else if (equal(lhs, positive) && equal(rhs, positive)) {
+                // pos+pos may overflow to a negative number, but the true sum
+                // is below 2^32 (2^64 for long), so it never wraps to zero.
+                // This is what keeps "i++" non-zero for a positive counter.
+                return nonzero;
             }
+            // nonzero+nonzero can be zero (-1 + 1), neg+neg can wrap to zero
+            // (MIN_VALUE + MIN_VALUE), and pos+neg can be zero, so they are top
         } else if (operator == BinaryOperator.MINUS) {
             // bottom prevails on others
             if (equal(lhs, bottom) || equal(rhs, bottom)) {
@@ -175,46 +183,34 @@ public class DivByZeroTransfer extends CFTransfer {
             } else if (equal(lhs, top) || equal(rhs, top)) {
                 // top with anything non bottom -> top
                 return top;
-            } else if (equal(lhs, nonzero) || equal(rhs, nonzero)) {
-                // top and bottom excluded, anything minus nonzero is nonzero
-                return nonzero;
+            } else if (equal(rhs, zero)) {
+                // zero on rhs, just return lhs
+                return lhs;
             } else if (equal(lhs, zero)) {
-                // zero on lhs, rhs is its negation 
+                // zero on lhs, rhs is its negation
                 if (equal(rhs, positive)) {
                     return negative;
-                } else if (equal(rhs, negative)) {
-                    return positive;
-                } else if (equal(rhs, zero)) {
-                    return zero;
+                } else if (equal(rhs, negative) || equal(rhs, nonzero)) {
+                    // -MIN_VALUE overflows to MIN_VALUE, so only nonzero
+                    return nonzero;
                 }
-            } else if (equal(rhs, zero)) {
-                // zero on rhs, just return lhs
-                return lhs;
+            } else if ((equal(lhs, positive) && equal(rhs, negative))
+                    || (equal(lhs, negative) && equal(rhs, positive))) {
+                // pos-neg and neg-pos may overflow, but like pos+pos they
+                // never wrap to zero (this covers "i--" on a negative counter)
+                return nonzero;
             }
-
+            // anything else, such as nonzero-nonzero (1 - 1), can be zero
         } else if (operator == BinaryOperator.TIMES) {
             // bottom prevails on others
             if (equal(rhs, bottom) || equal(lhs, bottom)) {
                 return bottom;
-            } else if (equal(lhs, zero) || equal(rhs, bottom)) {
+            } else if (equal(lhs, zero) || equal(rhs, zero)) {
                 // excluding above, anything * zero is zero
                 return zero;
-            } else if (equal(lhs, top) || equal(rhs, top)) {
-                // excluding above, anything * top is top
-                return top;
-            } else if (equal(lhs, nonzero) || equal(rhs, nonzero)) {
-                // excluding above, anything * nonzero is nonzero
-                return nonzero;
-            } else if (equal(lhs, rhs) && equal(lhs, positive)) {
-                // excluding above, pos*pos = pos
-                return positive;
-            } else if (equal(lhs, rhs) && equal(lhs, negative)) {
-                // excluding above, neg*neg = pos
-                return positive;
-            } else if (!equal(rhs, lhs) && (equal(lhs, negative) || equal(rhs, negative))) {
-                // excluding above, pos*neg = neg
-                return negative;
             }
+            // a product of non-zero values can wrap to zero (65536 * 65536
+            // is 0 as an int), so without more precise facts it is top
         } else if (operator == BinaryOperator.DIVIDE || operator == BinaryOperator.MOD) {
             if (equal(lhs, bottom) || equal(rhs, bottom) || equal(rhs, zero)) {
                 // if bottom on lhs or rhs, or zero on rhs res is bottom
@@ -228,9 +224,160 @@ public class DivByZeroTransfer extends CFTransfer {
         return top;
     }
 
+    // ========================================================================
+    // Difference bounds (enabled by the "divByZeroRelational" option)
+    //
+    // The sign lattice cannot express that "n - i" is non-zero inside
+    // "for (i = 0; i < n; i++)". With the option, comparisons between two
+    // local variables also record difference bounds in the DivByZeroStore,
+    // and subtractions of two related variables use them. To keep the bounds
+    // sparse, only variables that can flow into a divisor are related.
+
+    /** Variables of the method being analyzed that can flow into a divisor */
+    private Set<Element> divisorVariables = Collections.emptySet();
+
+    /**
+     * Record in the store what `x op y` implies about the differences
+     * between x and y.
+     */
+    private void addDifferenceBounds(DivByZeroStore store, Comparison op, Element x, Element y) {
+        switch (op) {
+            case EQ:
+                store.addUpperBound(x, y, 0);
+                store.addUpperBound(y, x, 0);
+                break;
+            case LT: store.addUpperBound(x, y, -1); break;
+            case LE: store.addUpperBound(x, y, 0); break;
+            case GT: store.addUpperBound(y, x, -1); break;
+            case GE: store.addUpperBound(y, x, 0); break;
+            default: break; // != bounds nothing
+        }
+    }
+
+    /**
+     * Refine the lattice point computed for `x - y` with the difference bounds
+     * known in the store.
+     */
+    private AnnotationMirror refineDifference(Node x, Node y, CFStore store, AnnotationMirror result) {
+        if (!(store instanceof DivByZeroStore)
+                || !(x instanceof LocalVariableNode)
+                || !(y instanceof LocalVariableNode)) {
+            return result;
+        }
+        Element xElement = ((LocalVariableNode) x).getElement();
+        Element yElement = ((LocalVariableNode) y).getElement();
+        Integer xy = ((DivByZeroStore) store).upperBound(xElement, yElement);
+        Integer yx = ((DivByZeroStore) store).upperBound(yElement, xElement);
+        if ((xy != null && xy < 0) || (yx != null && yx < 0)) {
+            // x != y. The exact difference is at most 2^32 - 1 (2^64 - 1 for
+            // long) away from zero, so even if the subtraction overflows it
+            // cannot wrap around to zero. It can change sign, though, so
+            // non-zero is the most we know.
+            return glb(result, nonzero);
+        }
+        return result;
+    }
+
+    /**
+     * Compute the variables that can flow into a divisor in the given code:
+     * those that occur in a divisor, and those from which such a variable is
+     * assigned, transitively.
+     */
+    private static Set<Element> computeDivisorVariables(Tree code) {
+        DivisorVariableScanner scanner = new DivisorVariableScanner();
+        scanner.scan(code, null);
+        Set<Element> result = new HashSet<>();
+        Deque<Element> worklist = new ArrayDeque<>(scanner.divisorUses);
+        while (!worklist.isEmpty()) {
+            Element variable = worklist.pop();
+            if (result.add(variable)) {
+                worklist.addAll(scanner.sources.getOrDefault(variable, Collections.emptySet()));
+            }
+        }
+        return result;
+    }
+
+    /** Collects divisor variables and assignments, for {@link #computeDivisorVariables(Tree)} */
+    private static class DivisorVariableScanner extends TreeScanner<Void, Void> {
+
+        /** Variables that occur in a divisor */
+        final Set<Element> divisorUses = new HashSet<>();
+
+        /** For each assigned variable, the variables its values are computed from */
+        final Map<Element, Set<Element>> sources = new HashMap<>();
+
+        @Override
+        public Void visitBinary(BinaryTree node, Void p) {
+            if (node.getKind() == Tree.Kind.DIVIDE || node.getKind() == Tree.Kind.REMAINDER) {
+                divisorUses.addAll(variablesIn(node.getRightOperand()));
+            }
+            return super.visitBinary(node, p);
+        }
+
+        @Override
+        public Void visitCompoundAssignment(CompoundAssignmentTree node, Void p) {
+            if (node.getKind() == Tree.Kind.DIVIDE_ASSIGNMENT || node.getKind() == Tree.Kind.REMAINDER_ASSIGNMENT) {
+                divisorUses.addAll(variablesIn(node.getExpression()));
+            }
+            addSources(node.getVariable(), node.getExpression());
+            return super.visitCompoundAssignment(node, p);
+        }
+
+        @Override
+        public Void visitAssignment(AssignmentTree node, Void p) {
+            addSources(node.getVariable(), node.getExpression());
+            return super.visitAssignment(node, p);
+        }
+
+        @Override
+        public Void visitVariable(VariableTree node, Void p) {
+            if (node.getInitializer() != null) {
+                addSources(TreeUtils.elementFromDeclaration(node), node.getInitializer());
+            }
+            return super.visitVariable(node, p);
+        }
+
+        private void addSources(ExpressionTree variable, Tree value) {
+            // only assignments to plain variables are tracked
+            if (variable instanceof IdentifierTree) {
+                addSources(TreeUtils.elementFromUse(variable), value);
+            }
+        }
+
+        private void addSources(Element variable, Tree value) {
+            if (variable != null) {
+                sources.computeIfAbsent(variable, k -> new HashSet<>()).addAll(variablesIn(value));
+            }
+        }
+
+        private static Set<Element> variablesIn(Tree tree) {
+            Set<Element> result = new HashSet<>();
+            new TreeScanner<Void, Void>() {
+                @Override
+                public Void visitIdentifier(IdentifierTree node, Void p) {
+                    Element element = TreeUtils.elementFromUse(node);
+                    if (element != null) {
+                        result.add(element);
+                    }
+                    return null;
+                }
+            }.scan(tree, null);
+            return result;
+        }
+    }
+
     // ========================================================================
     // Useful helpers
 
+    // The points of the lattice, created once per transfer function rather
+    // than on every call of the transfer functions above
+    private final AnnotationMirror top;
+    private final AnnotationMirror nonzero;
+    private final AnnotationMirror positive;
+    private final AnnotationMirror negative;
+    private final AnnotationMirror zero;
+    private final AnnotationMirror bottom;
+
     /** Get the top of the lattice */
     private AnnotationMirror top() {
         return analysis.getTypeFactory().getQualifierHierarchy().getTopAnnotations().iterator().next();
@@ -294,9 +441,35 @@ public class DivByZeroTransfer extends CFTransfer {
 
     public DivByZeroTransfer(CFAnalysis analysis) {
         super(analysis);
+        this.top = top();
+        this.nonzero = reflect(NonZero.class);
+        this.positive = reflect(Positive.class);
+        this.negative = reflect(Negative.class);
+        this.zero = reflect(Zero.class);
+        this.bottom = bottom();
+    }
+
+    public DivByZeroTransfer(DivByZeroAnalysis analysis) {
+        this((CFAnalysis) analysis);
+    }
+
+    @Override
+    public CFStore initialStore(UnderlyingAST underlyingAST, List<LocalVariableNode> parameters) {
+        CFStore store = super.initialStore(underlyingAST, parameters);
+        divisorVariables = isRelational()
+            ? computeDivisorVariables(underlyingAST.getCode())
+            : Collections.<Element>emptySet();
+        return store;
     }
 
     private TransferResult<CFValue, CFStore> implementComparison(Comparison op, BinaryOperationNode n, TransferResult<CFValue, CFStore> out) {
+        // Only int and long values (and their boxes) can end up as divisors;
+        // refining anything else just adds entries that every later store
+        // copy and join has to carry.
+        if (!isIntegral(n.getLeftOperand()) || !isIntegral(n.getRightOperand())) {
+            return out;
+        }
+
         QualifierHierarchy hierarchy = analysis.getTypeFactory().getQualifierHierarchy();
         AnnotationMirror l = findAnnotation(analysis.getValue(n.getLeftOperand()).getAnnotations(), hierarchy);
         AnnotationMirror r = findAnnotation(analysis.getValue(n.getRightOperand()).getAnnotations(), hierarchy);
@@ -306,26 +479,85 @@ public class DivByZeroTransfer extends CFTransfer {
             return out;
         }
 
+        AnnotationMirror thenLeft = refineLhsOfComparison(op, l, r);
+        AnnotationMirror thenRight = refineLhsOfComparison(flip(op), r, l);
+        AnnotationMirror elseLeft = refineLhsOfComparison(negate(op), l, r);
+        AnnotationMirror elseRight = refineLhsOfComparison(flip(negate(op)), r, l);
+
+        Node left = n.getLeftOperand();
+        Node right = n.getRightOperand();
+        boolean relate = isRelational()
+            && out.getThenStore() instanceof DivByZeroStore
+            && left instanceof LocalVariableNode
+            && right instanceof LocalVariableNode
+            && divisorVariables.contains(((LocalVariableNode) left).getElement())
+            && divisorVariables.contains(((LocalVariableNode) right).getElement());
+
+        if (!relate && equal(thenLeft, l) && equal(thenRight, r) && equal(elseLeft, l) && equal(elseRight, r)) {
+            // nothing learned on either branch; avoid copying the stores
+            return out;
+        }
+
         CFStore thenStore = out.getThenStore().copy();
         CFStore elseStore = out.getElseStore().copy();
 
-        thenStore.insertValue(
-                JavaExpression.fromNode(n.getLeftOperand()),
-            refineLhsOfComparison(op, l, r));
+        if (relate) {
+            Element x = ((LocalVariableNode) left).getElement();
+            Element y = ((LocalVariableNode) right).getElement();
+            addDifferenceBounds((DivByZeroStore) thenStore, op, x, y);
+            addDifferenceBounds((DivByZeroStore) elseStore, negate(op), x, y);
+        }
+
+        refine(thenStore, n.getLeftOperand(), l, thenLeft);
+        refine(thenStore, n.getRightOperand(), r, thenRight);
+        refine(elseStore, n.getLeftOperand(), l, elseLeft);
+        refine(elseStore, n.getRightOperand(), r, elseRight);
+
+        return new ConditionalTransferResult<>(out.getResultValue(), thenStore, elseStore);
+    }
+
+    /**
+     * Record a refined value for an operand, but only if the refinement is
+     * actually more precise than what was known before. Inserting an
+     * unchanged value would only grow the store.
+     */
+    private void refine(CFStore store, Node operand, AnnotationMirror before, AnnotationMirror after) {
+        if (!equal(before, after)) {
+            store.insertValue(JavaExpression.fromNode(operand), after);
+        }
+    }
 
-        thenStore.insertValue(
-            JavaExpression.fromNode(n.getRightOperand()),
-            refineLhsOfComparison(flip(op), r, l));
+    /** Determine whether a node has one of the types this checker tracks */
+    private boolean isIntegral(Node node) {
+        return DivByZeroAnalysis.isRelevant(node.getType(), analysis.getTypes());
+    }
 
-        elseStore.insertValue(
-            JavaExpression.fromNode(n.getLeftOperand()),
-            refineLhsOfComparison(negate(op), l, r));
+    /** Determine whether the "divByZeroRelational" option is given */
+    private boolean isRelational() {
+        return analysis instanceof DivByZeroAnalysis && ((DivByZeroAnalysis) analysis).isRelational();
+    }
 
-        elseStore.insertValue(
-            JavaExpression.fromNode(n.getRightOperand()),
-            refineLhsOfComparison(flip(negate(op)), r, l));
+    private TransferResult<CFValue, CFStore> implementNegation(UnaryOperationNode n, TransferResult<CFValue, CFStore> out) {
+        QualifierHierarchy hierarchy = analysis.getTypeFactory().getQualifierHierarchy();
+        AnnotationMirror operand = findAnnotation(analysis.getValue(n.getOperand()).getAnnotations(), hierarchy);
 
-        return new ConditionalTransferResult<>(out.getResultValue(), thenStore, elseStore);
+        if (operand == null) {
+            // this can happen for generic types
+            return out;
+        }
+
+        // -x is 0 - x
+        AnnotationMirror res = arithmeticTransfer(BinaryOperator.MINUS, zero, operand);
+        CFValue newResultValue = analysis.createSingleAnnotationValue(res, out.getResultValue().getUnderlyingType());
+        return new RegularTransferResult<>(newResultValue, out.getRegularStore());
+    }
+
+    private TransferResult<CFValue, CFStore> implementIdentity(UnaryOperationNode n, TransferResult<CFValue, CFStore> out) {
+        CFValue operand = analysis.getValue(n.getOperand());
+        if (operand == null) {
+            return out;
+        }
+        return new RegularTransferResult<>(operand, out.getRegularStore());
     }
 
     private TransferResult<CFValue, CFStore> implementOperator(BinaryOperator op, BinaryOperationNode n, TransferResult<CFValue, CFStore> out) {
@@ -339,6 +571,9 @@ public class DivByZeroTransfer extends CFTransfer {
         }
 
         AnnotationMirror res = arithmeticTransfer(op, l, r);
+        if (op == BinaryOperator.MINUS) {
+            res = refineDifference(n.getLeftOperand(), n.getRightOperand(), out.getRegularStore(), res);
+        }
         CFValue newResultValue = analysis.createSingleAnnotationValue(res, out.getResultValue().getUnderlyingType());
         return new RegularTransferResult<>(newResultValue, out.getRegularStore());
     }
@@ -408,6 +643,16 @@ public class DivByZeroTransfer extends CFTransfer {
         return implementOperator(BinaryOperator.MINUS, n, super.visitNumericalSubtraction(n, p));
     }
 
+    @Override
+    public TransferResult<CFValue, CFStore> visitNumericalMinus(NumericalMinusNode n, TransferInput<CFValue, CFStore> p) {
+        return implementNegation(n, super.visitNumericalMinus(n, p));
+    }
+
+    @Override
+    public TransferResult<CFValue, CFStore> visitNumericalPlus(NumericalPlusNode n, TransferInput<CFValue, CFStore> p) {
+        return implementIdentity(n, super.visitNumericalPlus(n, p));
+    }
+
     private static AnnotationMirror findAnnotation(
             Set<AnnotationMirror> set, QualifierHierarchy hierarchy) {
         if (set.size() == 0) {
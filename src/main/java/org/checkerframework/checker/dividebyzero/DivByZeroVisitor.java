@@ -2,6 +2,8 @@ package org.checkerframework.checker.dividebyzero;
 
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.common.basetype.BaseTypeVisitor;
+import org.checkerframework.javacutil.TreePathUtil;
+import org.checkerframework.javacutil.TreeUtils;
 
 import javax.lang.model.type.TypeKind;
 import java.lang.annotation.Annotation;
@@ -101,6 +103,118 @@ public class DivByZeroVisitor extends BaseTypeVisitor<DivByZeroAnnotatedTypeFact
         return atypeFactory.getAnnotatedType(node).hasAnnotation(c);
     }
 
+    /**
+     * Report a possible division by zero, unless the finding is in the
+     * baseline given by the "divByZeroBaseline" option.
+     * @param node the offending expression
+     * @param divisor the divisor of the offending expression
+     */
+    private void reportDivideByZero(ExpressionTree node, ExpressionTree divisor) {
+        Class<? extends Annotation> qualifier = hasAnnotation(divisor, Zero.class) ? Zero.class : Top.class;
+        String fingerprint = DivByZeroBaseline.fingerprint(
+            enclosingDeclaration(), node.toString(), qualifier.getSimpleName());
+        if (!((DivByZeroChecker) checker).getBaseline().accept(fingerprint)) {
+            checker.reportError(node, "divide.by.zero");
+        }
+    }
+
+    /**
+     * The name of the method (or, outside of methods, class) being visited.
+     * Classes are named by their binary name, such as "A$1", because
+     * anonymous classes have no qualified name.
+     */
+    private String enclosingDeclaration() {
+        ClassTree enclosingClass = TreePathUtil.enclosingClass(getCurrentPath());
+        String className = enclosingClass == null
+            ? ""
+            : elements.getBinaryName(TreeUtils.elementFromDeclaration(enclosingClass)).toString();
+        MethodTree enclosingMethod = TreePathUtil.enclosingMethod(getCurrentPath());
+        return enclosingMethod == null
+            ? className
+            : className + "#" + TreeUtils.elementFromDeclaration(enclosingMethod);
+    }
+
+    // ========================================================================
+    // Proven-safe manifest
+
+    /** Comparison operators that can guard against a zero divisor */
+    private static final Set<Tree.Kind> ZERO_GUARD_OPERATORS = EnumSet.of(
+        /* x == 0 */ Tree.Kind.EQUAL_TO,
+        /* x != 0 */ Tree.Kind.NOT_EQUAL_TO);
+
+    /**
+     * Determine which non-zero qualifier, if any, the checker proved for the
+     * given expression.
+     * @param node the AST node to inspect
+     * @return the proven qualifier, or null if the value might be zero
+     */
+    private Class<? extends Annotation> provenNonZero(Tree node) {
+        if (hasAnnotation(node, Positive.class)) {
+            return Positive.class;
+        } else if (hasAnnotation(node, Negative.class)) {
+            return Negative.class;
+        } else if (hasAnnotation(node, NonZero.class)) {
+            return NonZero.class;
+        }
+        return null;
+    }
+
+    /**
+     * Add a division whose divisor is proven non-zero to the manifest given
+     * by the "divByZeroSafeManifest" option.
+     * @param node the division or remainder expression
+     * @param divisor the divisor of the expression
+     */
+    private void recordDivision(ExpressionTree node, ExpressionTree divisor) {
+        DivByZeroManifest manifest = ((DivByZeroChecker) checker).getManifest();
+        if (manifest == null) {
+            return;
+        }
+        Class<? extends Annotation> qualifier = provenNonZero(divisor);
+        if (qualifier != null) {
+            manifest.add(position(node), DivByZeroManifest.DIVISION, node.toString(), qualifier.getSimpleName());
+        }
+    }
+
+    /**
+     * Add a comparison against zero whose outcome is already implied by the
+     * sign of the other operand to the manifest given by the
+     * "divByZeroSafeManifest" option.
+     * @param node the comparison expression
+     */
+    private void recordRedundantGuard(BinaryTree node) {
+        DivByZeroManifest manifest = ((DivByZeroChecker) checker).getManifest();
+        if (manifest == null || !ZERO_GUARD_OPERATORS.contains(node.getKind())) {
+            return;
+        }
+        ExpressionTree leftOperand = node.getLeftOperand();
+        ExpressionTree rightOperand = node.getRightOperand();
+        if (!isInt(leftOperand) || !isInt(rightOperand)) {
+            return;
+        }
+        ExpressionTree guarded;
+        if (hasAnnotation(rightOperand, Zero.class)) {
+            guarded = leftOperand;
+        } else if (hasAnnotation(leftOperand, Zero.class)) {
+            guarded = rightOperand;
+        } else {
+            return;
+        }
+        Class<? extends Annotation> qualifier = provenNonZero(guarded);
+        if (qualifier != null) {
+            manifest.add(position(node), DivByZeroManifest.GUARD, node.toString(), qualifier.getSimpleName());
+        }
+    }
+
+    /** The position of the given AST node, as file:line:column */
+    private String position(Tree node) {
+        long start = trees.getSourcePositions().getStartPosition(root, node);
+        LineMap lines = root.getLineMap();
+        return root.getSourceFile().getName()
+            + ":" + lines.getLineNumber(start)
+            + ":" + lines.getColumnNumber(start);
+    }
+
     // ========================================================================
     // Checker Framework plumbing
 
@@ -112,8 +226,12 @@ public class DivByZeroVisitor extends BaseTypeVisitor<DivByZeroAnnotatedTypeFact
     public Void visitBinary(BinaryTree node, Void p) {
         if (isInt(node)) {
             if (errorAt(node)) {
-                checker.reportError(node, "divide.by.zero");
+                reportDivideByZero(node, node.getRightOperand());
+            } else if (DIVISION_OPERATORS.contains(node.getKind())) {
+                recordDivision(node, node.getRightOperand());
             }
+        } else {
+            recordRedundantGuard(node);
         }
         return super.visitBinary(node, p);
     }
@@ -122,7 +240,9 @@ public class DivByZeroVisitor extends BaseTypeVisitor<DivByZeroAnnotatedTypeFact
     public Void visitCompoundAssignment(CompoundAssignmentTree node, Void p) {
         if (isInt(node.getExpression())) {
             if (errorAt(node)) {
-                checker.reportError(node, "divide.by.zero");
+                reportDivideByZero(node, node.getExpression());
+            } else if (DIVISION_OPERATORS.contains(node.getKind())) {
+                recordDivision(node, node.getExpression());
             }
         }
         return super.visitCompoundAssignment(node, p);
@@ -0,0 +1,30 @@
+import java.io.File;
+import java.util.List;
+import org.checkerframework.checker.dividebyzero.DivByZeroChecker;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Test runner for tests of the Divide By Zero Checker with the {@code
+ * -AdivByZeroBaseline} option.
+ *
+ * <p>Tests appear as Java files in the {@code tests/dividebyzero-baseline} folder, and are checked
+ * against the baseline file {@code baseline.txt} in the same folder.
+ */
+public class DivideByZeroBaselineTest extends CheckerFrameworkPerDirectoryTest {
+    public DivideByZeroBaselineTest(List<File> testFiles) {
+        super(
+                testFiles,
+                DivByZeroChecker.class,
+                "dividebyzero-baseline",
+                "-Anomsgtext",
+                "-AdivByZeroBaseline=tests/dividebyzero-baseline/baseline.txt",
+                "-Astubs=stubs/",
+                "-nowarn");
+    }
+
+    @Parameters
+    public static String[] getTestDirs() {
+        return new String[] {"dividebyzero-baseline"};
+    }
+}
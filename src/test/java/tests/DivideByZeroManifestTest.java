@@ -0,0 +1,69 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.checkerframework.checker.dividebyzero.DivByZeroChecker;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Test runner for tests of the Divide By Zero Checker with the {@code -AdivByZeroSafeManifest}
+ * option.
+ *
+ * <p>Tests appear as Java files in the {@code tests/dividebyzero-manifest} folder. Besides the
+ * expected diagnostics, the test compares the written manifest against {@link #EXPECTED}.
+ */
+public class DivideByZeroManifestTest extends CheckerFrameworkPerDirectoryTest {
+
+    private static final Path MANIFEST = Paths.get("tests", "build", "dividebyzero-manifest.txt");
+
+    /** The expected manifest entries, without the file name that starts each entry. */
+    private static final List<String> EXPECTED =
+            Arrays.asList(
+                    "8:17\tdivision\t10 / p\tPositive",
+                    "9:17\tdivision\t10 % n\tNegative",
+                    "10:13\tguard\tp == 0\tPositive",
+                    "14:21\tdivision\t10 / t\tNonZero",
+                    "19:17\tguard\t0 != t\tNonZero",
+                    "26:9\tdivision\tq /= p\tPositive");
+
+    public DivideByZeroManifestTest(List<File> testFiles) {
+        super(
+                testFiles,
+                DivByZeroChecker.class,
+                "dividebyzero-manifest",
+                "-Anomsgtext",
+                "-AdivByZeroSafeManifest=" + MANIFEST,
+                "-Astubs=stubs/",
+                "-nowarn");
+    }
+
+    @Parameters
+    public static String[] getTestDirs() {
+        return new String[] {"dividebyzero-manifest"};
+    }
+
+    @Override
+    @Test
+    public void run() {
+        try {
+            Files.createDirectories(MANIFEST.getParent());
+            Files.deleteIfExists(MANIFEST);
+            super.run();
+            List<String> entries = new ArrayList<>();
+            for (String entry : Files.readAllLines(MANIFEST, StandardCharsets.UTF_8)) {
+                entries.add(entry.substring(entry.lastIndexOf(".java:") + ".java:".length()));
+            }
+            Assert.assertEquals(EXPECTED, entries);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+import java.io.File;
+import java.util.List;
+import org.checkerframework.checker.dividebyzero.DivByZeroChecker;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Test runner for tests of the Divide By Zero Checker with the {@code
+ * -AdivByZeroIncludePackages} and {@code -AdivByZeroExcludePackages} options.
+ *
+ * <p>Tests appear as Java files in the {@code tests/dividebyzero-packages} folder.
+ */
+public class DivideByZeroPackagesTest extends CheckerFrameworkPerDirectoryTest {
+    public DivideByZeroPackagesTest(List<File> testFiles) {
+        super(
+                testFiles,
+                DivByZeroChecker.class,
+                "dividebyzero-packages",
+                "-Anomsgtext",
+                "-AdivByZeroIncludePackages=app,app.generated.kept",
+                "-AdivByZeroExcludePackages=app.generated,legacy",
+                "-Astubs=stubs/",
+                "-nowarn");
+    }
+
+    @Parameters
+    public static String[] getTestDirs() {
+        return new String[] {"dividebyzero-packages"};
+    }
+}
@@ -0,0 +1,29 @@
+import java.io.File;
+import java.util.List;
+import org.checkerframework.checker.dividebyzero.DivByZeroChecker;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Test runner for tests of the Divide By Zero Checker with the {@code -AdivByZeroRelational}
+ * option.
+ *
+ * <p>Tests appear as Java files in the {@code tests/dividebyzero-relational} folder.
+ */
+public class DivideByZeroRelationalTest extends CheckerFrameworkPerDirectoryTest {
+    public DivideByZeroRelationalTest(List<File> testFiles) {
+        super(
+                testFiles,
+                DivByZeroChecker.class,
+                "dividebyzero-relational",
+                "-Anomsgtext",
+                "-AdivByZeroRelational",
+                "-Astubs=stubs/",
+                "-nowarn");
+    }
+
+    @Parameters
+    public static String[] getTestDirs() {
+        return new String[] {"dividebyzero-relational"};
+    }
+}
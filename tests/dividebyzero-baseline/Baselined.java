@@ -0,0 +1,46 @@
+import java.util.function.IntSupplier;
+
+// Checked against tests/dividebyzero-baseline/baseline.txt, which accepts
+// the first "1 / x" in f, the "1 / y" in h, and the "1 / z" in the first
+// anonymous class.
+class Baselined {
+
+    public static int f(int x) {
+        int a = 1 / x;
+        // :: error: divide.by.zero
+        int b = 1 / x;
+        return a + b;
+    }
+
+    public static int g(int x) {
+        // :: error: divide.by.zero
+        return 1 / x;
+    }
+
+    public static int h(int y) {
+        int a = 1 / y;
+        int zero = 0;
+        // :: error: divide.by.zero
+        int b = 1 / zero;
+        return a + b;
+    }
+
+    public static int anonymous() {
+        IntSupplier first = new IntSupplier() {
+            @Override
+            public int getAsInt() {
+                int z = 0;
+                return 1 / z;
+            }
+        };
+        IntSupplier second = new IntSupplier() {
+            @Override
+            public int getAsInt() {
+                int z = 0;
+                // :: error: divide.by.zero
+                return 1 / z;
+            }
+        };
+        return first.getAsInt() + second.getAsInt();
+    }
+}
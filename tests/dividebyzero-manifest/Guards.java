@@ -0,0 +1,29 @@
+// Sites listed in the manifest written by -AdivByZeroSafeManifest; see
+// DivideByZeroManifestTest for the expected entries.
+class Guards {
+
+    public static int f(int t) {
+        int p = 5;
+        int n = -3;
+        int a = 10 / p;
+        int b = 10 % n;
+        if (p == 0) {
+            return 0;
+        }
+        if (t != 0) {
+            int c = 10 / t;
+            int d = t + 1;
+            if (d == 0) {
+                return 0;
+            }
+            if (0 != t) {
+                return c;
+            }
+        }
+        // :: error: divide.by.zero
+        int e = 10 / t;
+        int q = 7;
+        q /= p;
+        return a + b + e + q;
+    }
+}
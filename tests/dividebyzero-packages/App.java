@@ -0,0 +1,9 @@
+// Included by "app".
+package app;
+
+class App {
+    int f(int y) {
+        // :: error: divide.by.zero
+        return 1 / y;
+    }
+}
@@ -0,0 +1,8 @@
+// Excluded by "app.generated", which is longer than the included "app".
+package app.generated;
+
+class AppGenerated {
+    int f(int y) {
+        return 1 / y;
+    }
+}
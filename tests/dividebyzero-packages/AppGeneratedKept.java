@@ -0,0 +1,9 @@
+// Included by "app.generated.kept", nested under the excluded "app.generated".
+package app.generated.kept;
+
+class AppGeneratedKept {
+    int f(int y) {
+        // :: error: divide.by.zero
+        return 1 / y;
+    }
+}
@@ -0,0 +1,9 @@
+// Prefixes match whole package name components, so "app" does not cover
+// "application", which no prefix covers.
+package application;
+
+class Application {
+    int f(int y) {
+        return 1 / y;
+    }
+}
@@ -0,0 +1,8 @@
+// Excluded by "legacy".
+package legacy.io;
+
+class Legacy {
+    int f(int y) {
+        return 1 / y;
+    }
+}
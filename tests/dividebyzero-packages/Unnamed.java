@@ -0,0 +1,7 @@
+// Includes were given, so the unnamed package, which matches no prefix, is
+// not checked.
+class Unnamed {
+    int f(int y) {
+        return 1 / y;
+    }
+}
@@ -0,0 +1,60 @@
+// Tests for the difference bounds enabled by -AdivByZeroRelational.
+class LoopBounds {
+
+    public static int chunks(int n, int total) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += total / (n - i);
+        }
+        return sum;
+    }
+
+    public static int remaining(int n, int total) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            int left = n - i;
+            sum += total % left;
+        }
+        return sum;
+    }
+
+    public static int countdown(int n, int lo, int total) {
+        int sum = 0;
+        for (int i = n; i > lo; i--) {
+            sum += total / (i - lo);
+        }
+        return sum;
+    }
+
+    public static int comparison(int x, int y) {
+        if (x != y) {
+            // :: error: divide.by.zero
+            return 1 / (x - y);
+        }
+        return 0;
+    }
+
+    public static int ordered(int x, int y) {
+        if (x <= y) {
+            // :: error: divide.by.zero
+            return 1 / (y - x);
+        }
+        return 0;
+    }
+
+    public static int strictlyOrdered(int x, int y) {
+        if (y < x) {
+            return 1 / (x - y);
+        }
+        return 0;
+    }
+
+    public static int reassigned(int n, int i) {
+        if (i < n) {
+            i = n;
+            // :: error: divide.by.zero
+            return 1 / (n - i);
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,20 @@
+// Uses of compile-time constants get the sign of their value.
+class Constants {
+
+    static final int FOUR = 2 << 1;
+    static final int NONE = 0;
+    static final long MINUS_ONE = ~0L;
+    static int notConstant = 4;
+
+    public static void f() {
+        int a = 1 / FOUR;
+        int b = 1 / Constants.FOUR;
+        long c = 1L / MINUS_ONE;
+        int d = 1 / Integer.MAX_VALUE;
+        long e = 1L / Long.MIN_VALUE;
+        // :: error: divide.by.zero
+        int x = 1 / NONE;
+        // :: error: divide.by.zero
+        int y = 1 / notConstant;
+    }
+}
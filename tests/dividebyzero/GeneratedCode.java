@@ -0,0 +1,27 @@
+// Classes annotated @Generated are not checked, whatever package the
+// annotation comes from.
+@interface Generated { }
+
+@Generated
+class GeneratedCode {
+
+    public static void f() {
+        int zero = 0;
+        int x = 1 / zero;
+    }
+
+    static class Nested {
+        int g(int y) {
+            return 1 / y;
+        }
+    }
+}
+
+class NotGeneratedCode {
+
+    public static void f() {
+        int zero = 0;
+        // :: error: divide.by.zero
+        int x = 1 / zero;
+    }
+}
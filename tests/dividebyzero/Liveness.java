@@ -0,0 +1,68 @@
+import java.util.function.IntSupplier;
+
+// Stores are pruned to the live int and long locals at every block
+// boundary; facts still needed later must survive the pruning.
+class Liveness {
+
+    public static int loop(String s) {
+        int p = 5;
+        Object o = s;
+        int acc = 0;
+        for (int i = 1; i < 10; i += 1) {
+            acc += 10 / p;
+            // :: error: divide.by.zero
+            acc += 10 / acc;
+        }
+        return 10 / p + o.hashCode();
+    }
+
+    public static int compound(int t) {
+        int r = 2;
+        if (t > 0) {
+            r += 0;
+        }
+        return 10 / r;
+    }
+
+    public static int captured() {
+        int p = 5;
+        int dead = 1;
+        int x = 10 / dead;
+        IntSupplier supplier = () -> 10 / p;
+        return x + supplier.getAsInt();
+    }
+
+    public static int reassigned(int t) {
+        int d = 4;
+        int x = 10 / d;
+        if (t > 0) {
+            d = t - 1;
+        }
+        // :: error: divide.by.zero
+        return x + 10 / d;
+    }
+
+    public static int ternary(boolean b) {
+        int p = 5, q = 3;
+        int r = b ? p : q;
+        return 10 / r;
+    }
+
+    public static int ternaryWithCondition(boolean b) {
+        int p = 5;
+        int r = (b && p > 1) ? p : 1;
+        return 10 / r;
+    }
+
+    public static int ternaryInDivisor(boolean b) {
+        int p = 5;
+        return 10 / (b ? p : -p);
+    }
+
+    public static int ternaryMaybeZero(boolean b) {
+        int p = 5;
+        int r = b ? p : 0;
+        // :: error: divide.by.zero
+        return 10 / r;
+    }
+}
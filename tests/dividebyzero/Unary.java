@@ -0,0 +1,101 @@
+// Tests for unary operators, increments, decrements and compound assignments.
+class Unary {
+
+    public static void negation(int t) {
+        int p = 5;
+        int a = -p;
+        int x = 1 / a;
+        int n = -5;
+        int b = -n;
+        int y = 1 / b;
+        if (t != 0) {
+            int c = -t;
+            int z = 1 / c;
+        }
+        int zero = 0;
+        int d = -zero;
+        // :: error: divide.by.zero
+        int w = 1 / d;
+    }
+
+    public static void plus() {
+        int p = 5;
+        int a = +p;
+        int x = 1 / a;
+    }
+
+    public static void increment() {
+        int i = 1;
+        i++;
+        int x = 1 / i;
+        // i is only known to be non-zero now, and -1 + 1 == 0
+        ++i;
+        // :: error: divide.by.zero
+        int y = 1 / i;
+
+        int zero = 0;
+        zero++;
+        int z = 1 / zero;
+    }
+
+    public static void decrement() {
+        int i = -1;
+        i--;
+        int x = 1 / i;
+        // i is only known to be non-zero now, and 1 - 1 == 0
+        --i;
+        // :: error: divide.by.zero
+        int y = 1 / i;
+
+        int one = 1;
+        one--;
+        // :: error: divide.by.zero
+        int z = 1 / one;
+    }
+
+    public static void sums(int t) {
+        if (t != 0) {
+            int a = t + 1;
+            // :: error: divide.by.zero
+            int x = 1 / a;
+            int b = t - 1;
+            // :: error: divide.by.zero
+            int y = 1 / b;
+            int c = t + 0;
+            int z = 1 / c;
+        }
+    }
+
+    public static void compound(int t) {
+        int a = 2;
+        a += 3;
+        int x = 1 / a;
+        // 65536 * 65536 == 0, so products of non-zero values may be zero
+        a *= 4;
+        // :: error: divide.by.zero
+        int y = 1 / a;
+
+        int b = -2;
+        b -= 3;
+        int z = 1 / b;
+
+        int c = 5;
+        c *= 0;
+        // :: error: divide.by.zero
+        int w = 1 / c;
+
+        int d = t;
+        d *= 0;
+        // :: error: divide.by.zero
+        int v = 1 / d;
+    }
+
+    public static void counter(int n) {
+        int sum = 0;
+        for (int i = 1; i < n; i++) {
+            // after one iteration, i is non-zero and i + 1 may be zero
+            // :: error: divide.by.zero
+            sum += n / i;
+        }
+    }
+}